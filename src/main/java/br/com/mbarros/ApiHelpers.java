@@ -1,8 +1,11 @@
 package br.com.mbarros;
 
 import br.com.mbarros.exceptions.JsonSchemaValidationException;
+import br.com.mbarros.exceptions.PayloadSerializationException;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.microsoft.playwright.APIResponse;
 import com.networknt.schema.*;
 import net.datafaker.Faker;
@@ -10,15 +13,30 @@ import org.testng.Assert;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.util.HexFormat;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The ApiHelpers class provides helper methods for API-related operations.
  */
 public class ApiHelpers {
 
+    /**
+     * Shared ObjectMapper used to encode request payloads and read JSON documents.
+     * It is never reconfigured after creation, so it is safe to use from every test thread.
+     */
+    public static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * Compiled JSON schemas by resource path, so each schema is read and compiled only once per run.
+     */
+    private static final Map<String, JsonSchema> JSON_SCHEMAS = new ConcurrentHashMap<>();
+
     /**
      * Transforms the given value into an appropriate object based on predefined rules.
      *
@@ -105,31 +123,102 @@ public class ApiHelpers {
         }
 
         try {
-            ObjectMapper objectMapper = new ObjectMapper();
-            JsonNode jsonNode = objectMapper.readTree(response.text());
+            JsonNode jsonNode = OBJECT_MAPPER.readTree(response.text());
+            JsonSchema schema = getJsonSchema(jsonSchemaPath);
+
+            Set<ValidationMessage> validationResult = schema.validate(jsonNode);
 
-            try (InputStream schemaStream = JsonValidator.class.getClassLoader().getResourceAsStream(jsonSchemaPath)) {
-                if (schemaStream == null) {
-                    throw new IllegalArgumentException("JSON schema file not found: " + jsonSchemaPath);
+            if (!validationResult.isEmpty()) {
+                StringBuilder errorMessage = new StringBuilder("JSON is invalid according to the JSON Schema: " + jsonSchemaPath + "\n");
+                for (ValidationMessage message : validationResult) {
+                    errorMessage.append(message.getMessage()).append("\n");
                 }
+                Assert.fail(errorMessage.toString());
+            }
+        } catch (IOException e) {
+            throw new JsonSchemaValidationException("Error validating JSON against JSON Schema", e);
+        }
+    }
+
+    /**
+     * Gets the compiled JSON schema of the given resource path, reading and compiling it on the first call.
+     *
+     * @param jsonSchemaPath The classpath path to the JSON schema file.
+     * @return The compiled JsonSchema.
+     * @throws IOException              If the JSON schema file cannot be read.
+     * @throws IllegalArgumentException If the JSON schema file does not exist.
+     */
+    public static JsonSchema getJsonSchema(String jsonSchemaPath) throws IOException {
+        JsonSchema schema = JSON_SCHEMAS.get(jsonSchemaPath);
+        if (schema != null) {
+            return schema;
+        }
 
-                JsonNode schemaNode = objectMapper.readTree(schemaStream);
+        try (InputStream schemaStream = JsonValidator.class.getClassLoader().getResourceAsStream(jsonSchemaPath)) {
+            if (schemaStream == null) {
+                throw new IllegalArgumentException("JSON schema file not found: " + jsonSchemaPath);
+            }
 
-                JsonSchemaFactory schemaFactory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V7);
-                JsonSchema schema = schemaFactory.getSchema(schemaNode);
+            JsonNode schemaNode = OBJECT_MAPPER.readTree(schemaStream);
 
-                Set<ValidationMessage> validationResult = schema.validate(jsonNode);
+            JsonSchemaFactory schemaFactory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V7);
+            schema = schemaFactory.getSchema(schemaNode);
+            // Validators are created lazily by default, initializing them here lets threads share the schema safely.
+            schema.initializeValidators();
+        }
 
-                if (!validationResult.isEmpty()) {
-                    StringBuilder errorMessage = new StringBuilder("JSON is invalid according to the JSON Schema: " + jsonSchemaPath + "\n");
-                    for (ValidationMessage message : validationResult) {
-                        errorMessage.append(message.getMessage()).append("\n");
-                    }
-                    Assert.fail(errorMessage.toString());
-                }
+        JsonSchema cachedSchema = JSON_SCHEMAS.putIfAbsent(jsonSchemaPath, schema);
+        return cachedSchema != null ? cachedSchema : schema;
+    }
+
+    /**
+     * Encodes the given payload to JSON bytes, applying the field overrides on top of it.
+     * The payload is serialized exactly once, so the returned buffer can be sent, attached and hashed as-is.
+     * A null override removes the field from the body, as the previous Map body sent through Gson did.
+     *
+     * @param payload   The typed payload to be encoded (e.g. a class from the payloads package).
+     * @param overrides A map of fields and values that replace the payload fields before encoding.
+     * @return The UTF-8 encoded JSON body.
+     * @throws PayloadSerializationException If the payload cannot be encoded to JSON.
+     */
+    public static byte[] encodeBody(Object payload, Map<String, Object> overrides) {
+        try {
+            if (overrides == null || overrides.isEmpty()) {
+                return OBJECT_MAPPER.writeValueAsBytes(payload);
             }
-        } catch (IOException e) {
-            throw new JsonSchemaValidationException("Error validating JSON against JSON Schema", e);
+
+            JsonNode payloadTree = payload == null ? OBJECT_MAPPER.createObjectNode() : OBJECT_MAPPER.valueToTree(payload);
+            if (!payloadTree.isObject()) {
+                throw new PayloadSerializationException("Field overrides require a JSON object payload, but "
+                        + payload.getClass().getSimpleName() + " is encoded as " + payloadTree.getNodeType());
+            }
+
+            ObjectNode payloadNode = (ObjectNode) payloadTree;
+            overrides.forEach((field, value) -> {
+                if (value == null) {
+                    payloadNode.remove(field);
+                } else {
+                    payloadNode.set(field, OBJECT_MAPPER.valueToTree(value));
+                }
+            });
+
+            return OBJECT_MAPPER.writeValueAsBytes(payloadNode);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            throw new PayloadSerializationException("Error encoding request payload to JSON", e);
+        }
+    }
+
+    /**
+     * Calculates the SHA-256 hash of the given request body.
+     *
+     * @param body The encoded request body.
+     * @return The hexadecimal representation of the SHA-256 hash.
+     */
+    public static String hashBody(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
         }
     }
 }
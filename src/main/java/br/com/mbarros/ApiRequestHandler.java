@@ -12,11 +12,13 @@ import io.restassured.http.Method;
 import lombok.extern.slf4j.Slf4j;
 import org.json.JSONObject;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 
 import static br.com.mbarros.ApiConstants.BASE_URI;
+import static br.com.mbarros.ApiHelpers.hashBody;
 import static br.com.mbarros.ApiHelpers.replacePathParams;
 
 /**
@@ -29,7 +31,7 @@ public class ApiRequestHandler {
 
     Boolean isToReport;
     Map<String, String> headers = new HashMap<>();
-    Map<String, Object> body = new HashMap<>();
+    byte[] body;
     Map<String, String> cookies = new HashMap<>();
 
     public ApiRequestHandler() {
@@ -57,7 +59,7 @@ public class ApiRequestHandler {
                 .setBaseURL(BASE_URI)
                 .setExtraHTTPHeaders(headers));
 
-        PlaywrightManager.apiRequestContext.set(requestContext);
+        PlaywrightManager.addAPIRequestContext(requestContext);
 
         if (method.equals(Method.PATCH) || method.equals(Method.DELETE)) {
             endpoint = replacePathParams(endpoint, request.getPathParams());
@@ -77,6 +79,7 @@ public class ApiRequestHandler {
         long endTime = System.currentTimeMillis();
 
         long duration = endTime - startTime;
+        ResponseTimeRecorder.record(duration);
         int hour = (int) (duration / 3600000) % 24;
         int minute = (int) (duration / 60000) % 60;
         int seconds = (int) (duration / 1000) % 60;
@@ -114,11 +117,15 @@ public class ApiRequestHandler {
                 .setCookies(cookies);
 
         if (Objects.nonNull(body)) {
-            requestAttachmentBuilder.setBody(body.toString());
+            requestAttachmentBuilder.setBody(new String(body, StandardCharsets.UTF_8));
         }
 
         HttpRequestAttachment requestAttachment = requestAttachmentBuilder.build();
         (new DefaultAttachmentProcessor()).addAttachment(requestAttachment, new FreemarkerAttachmentRenderer("http-request.ftl"));
+
+        if (Objects.nonNull(body)) {
+            Allure.addAttachment("Request body SHA-256", hashBody(body));
+        }
     }
 
     /**
@@ -3,14 +3,17 @@ package br.com.mbarros;
 import com.microsoft.playwright.APIRequestContext;
 import com.microsoft.playwright.Playwright;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * The PlaywrightManager class is responsible for managing the Playwright instances and API request contexts.
- * It provides methods to get the Playwright instance, close the Playwright instance, and dispose of the API request context.
+ * It provides methods to get the Playwright instance, close the Playwright instance, and dispose of the API request contexts.
  */
 public class PlaywrightManager {
 
     public static ThreadLocal<Playwright> playwright = new ThreadLocal<>();
-    public static ThreadLocal<APIRequestContext> apiRequestContext = new ThreadLocal<>();
+    public static ThreadLocal<List<APIRequestContext>> apiRequestContexts = ThreadLocal.withInitial(ArrayList::new);
 
     /**
      * Gets the Playwright instance for the current thread. If not already created, a new instance is created.
@@ -36,12 +39,20 @@ public class PlaywrightManager {
     }
 
     /**
-     * Disposes of the API request context for the current thread, if it exists.
+     * Registers an API request context opened by the current thread, so it is disposed of at the end of the scenario.
+     *
+     * @param context The API request context.
+     */
+    public static void addAPIRequestContext(APIRequestContext context) {
+        apiRequestContexts.get().add(context);
+    }
+
+    /**
+     * Disposes of every API request context opened by the current thread.
+     * It must only be called at the end of a scenario, since disposing of a context also invalidates its responses.
      */
     public static void closeAPIRequestContext() {
-        APIRequestContext context = apiRequestContext.get();
-        if (context != null) {
-            context.dispose();
-        }
+        apiRequestContexts.get().forEach(APIRequestContext::dispose);
+        apiRequestContexts.remove();
     }
 }
\ No newline at end of file
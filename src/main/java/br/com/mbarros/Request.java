@@ -19,7 +19,7 @@ import java.util.Map;
 public class Request {
 
     RequestOptions requestOptions;
-    Map<String, Object> body;
+    byte[] body;
     Map<String, Object> pathParams;
     String jsonSchemaPath;
 }
@@ -0,0 +1,50 @@
+package br.com.mbarros;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The ResponseTimeRecorder class collects the response time of every API request sent by the ApiRequestHandler.
+ * Recording is disabled by default and is only enabled by tools that need the raw latencies, such as the thread-scaling benchmark.
+ */
+public class ResponseTimeRecorder {
+
+    private static volatile boolean enabled = false;
+    private static final Queue<Long> responseTimes = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Enables or disables the recording of response times.
+     *
+     * @param enabled True to start recording, false to stop it.
+     */
+    public static void setEnabled(boolean enabled) {
+        ResponseTimeRecorder.enabled = enabled;
+    }
+
+    /**
+     * Records the response time of a request, if recording is enabled.
+     *
+     * @param durationMillis The response time in milliseconds.
+     */
+    public static void record(long durationMillis) {
+        if (enabled) {
+            responseTimes.add(durationMillis);
+        }
+    }
+
+    /**
+     * Removes and returns all response times recorded so far.
+     *
+     * @return A list with the recorded response times in milliseconds.
+     */
+    public static List<Long> drain() {
+        List<Long> drained = new ArrayList<>();
+        Long duration;
+        while ((duration = responseTimes.poll()) != null) {
+            drained.add(duration);
+        }
+        return drained;
+    }
+}
\ No newline at end of file
@@ -6,8 +6,11 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+import static br.com.mbarros.ApiHelpers.encodeBody;
+
 /**
  * The SharedApiData class represents shared data and operations for API requests and responses.
  */
@@ -26,7 +29,8 @@ public class SharedApiData {
     private Map<String, Object> queryParams = new HashMap<>();
     private Map<String, Object> pathParams = new HashMap<>();
     private Map<String, Object> headers = new HashMap<>();
-    private Map<String, Object> body = null;
+    private Object body = null;
+    private Map<String, Object> bodyOverrides = new LinkedHashMap<>();
     private String jsonSchemaFile = "";
 
     /**
@@ -40,15 +44,17 @@ public class SharedApiData {
         // Set query parameters in the RequestOptions object.
         queryParams.forEach((key, value) -> requestOptions.setQueryParam(key, (String) value));
 
-        // Set the request body in the RequestOptions object, if it exists.
-        if (body != null) {
-            requestOptions.setData(body);
+        // Encode the request body once and send the same bytes that will be reported, if it exists.
+        byte[] encodedBody = null;
+        if (body != null || !bodyOverrides.isEmpty()) {
+            encodedBody = encodeBody(body, bodyOverrides);
+            requestOptions.setData(encodedBody);
         }
 
         // Build and return the Request object with the prepared data.
         return Request.builder()
                 .requestOptions(requestOptions)
-                .body(body)
+                .body(encodedBody)
                 .pathParams(pathParams)
                 .build();
     }
@@ -81,16 +87,28 @@ public class SharedApiData {
         headers.put(field, value);
     }
 
-    public Map<String, Object> getBody() {
+    public Object getBody() {
         return body;
     }
 
-    public void setBody(Map<String, Object> body) {
+    /**
+     * Sets the typed payload of the request and discards the field overrides of the previous payload.
+     *
+     * @param body The payload object to be encoded when the request is prepared.
+     */
+    public void setBody(Object body) {
         this.body = body;
+        this.bodyOverrides = new LinkedHashMap<>();
     }
 
+    /**
+     * Overrides a payload field with the given value. Overrides are applied on top of the payload when it is encoded.
+     *
+     * @param field The payload field to be overridden.
+     * @param value The value of the field, which may be null.
+     */
     public void addBodyParam(String field, Object value) {
-        body.put(field, value);
+        bodyOverrides.put(field, value);
     }
 
     public String getJsonSchemaFile() {
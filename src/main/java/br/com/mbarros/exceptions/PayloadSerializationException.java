@@ -0,0 +1,20 @@
+package br.com.mbarros.exceptions;
+
+public class PayloadSerializationException extends RuntimeException {
+
+    public PayloadSerializationException() {
+        super();
+    }
+
+    public PayloadSerializationException(String message) {
+        super(message);
+    }
+
+    public PayloadSerializationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public PayloadSerializationException(Throwable cause) {
+        super(cause);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,256 @@
+package br.com.mbarros.benchmark;
+
+import br.com.mbarros.ResponseTimeRecorder;
+import br.com.mbarros.listeners.SuiteWarmUp;
+import br.com.mbarros.runners.TestRunner;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.TestListenerAdapter;
+import org.testng.TestNG;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import static br.com.mbarros.ApiConstants.BASE_URI;
+
+/**
+ * The ThreadScalingBenchmark class runs the TestRunner scenarios repeatedly at a series of thread counts
+ * and reports how the suite scales, so featureThreadCount and scenarioThreadCount can be chosen from measurements.
+ * The thread counts are applied through the featureThreadCount and scenarioThreadCount properties read by the DefaultListener.
+ * CPU time and heap are measured for this JVM. The CPU time of the Playwright driver processes started per thread is
+ * reported in its own column (Linux only, read from /proc), since that is where the Playwright-per-thread model shows its cost.
+ * <p>
+ * Usage: {@code mvn test-compile exec:java -Dexec.mainClass=br.com.mbarros.benchmark.ThreadScalingBenchmark -Dexec.classpathScope=test}
+ * <ul>
+ *     <li>benchmarkThreadCounts: Comma separated thread counts to be measured (default "1,2,4,8,16").</li>
+ *     <li>benchmarkIterations: Number of runs at each thread count (default 3).</li>
+ *     <li>benchmarkWarmupRuns: Number of discarded runs before the measurements (default 1).</li>
+ *     <li>benchmarkMinEfficiency: Minimum parallel efficiency accepted for the recommended thread count (default 0.5).</li>
+ *     <li>cucumber.filter.tags: Tags of the scenarios to be executed (default is the TestRunner tags).</li>
+ * </ul>
+ */
+@Slf4j
+public class ThreadScalingBenchmark {
+
+    private static final Path REPORT_FILE = Path.of("target", "benchmark", "thread-scaling.csv");
+    private static final Path PROC_SELF_STAT = Path.of("/proc/self/stat");
+    // Read once, before any measurement, since getconf is itself a child process.
+    private static final long CLOCK_TICKS_PER_SECOND = readClockTicksPerSecond();
+
+    /**
+     * Holds the measurements of a single thread count. Throughput only counts passed scenarios, so requests that
+     * fail fast (e.g. rate limited with 429) do not look like a faster suite. Scenario counts are averages per run,
+     * kept as fractions so a failure in a single iteration is not rounded away.
+     */
+    record Level(int threadCount, long wallTimeMillis, double scenarios, double passedScenarios, double failedScenarios,
+                 long cpuTimeMillis, long driverCpuTimeMillis, long peakHeapBytes, long p99LatencyMillis) {
+
+        double throughput() {
+            return wallTimeMillis == 0 ? 0 : passedScenarios * 1000.0 / wallTimeMillis;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<Integer> threadCounts = Arrays.stream(System.getProperty("benchmarkThreadCounts", "1,2,4,8,16").split(","))
+                .map(String::trim)
+                .map(Integer::parseInt)
+                .toList();
+        int iterations = Integer.parseInt(System.getProperty("benchmarkIterations", "3"));
+        int warmupRuns = Integer.parseInt(System.getProperty("benchmarkWarmupRuns", "1"));
+        double minEfficiency = Double.parseDouble(System.getProperty("benchmarkMinEfficiency", "0.5"));
+
+        log.info("Thread-scaling benchmark against " + BASE_URI + " with thread counts " + threadCounts);
+
+        SuiteWarmUp.run(Runtime.getRuntime().availableProcessors());
+        for (int i = 0; i < warmupRuns; i++) {
+            runSuite(threadCounts.get(0));
+        }
+
+        ResponseTimeRecorder.setEnabled(true);
+        List<Level> levels = new ArrayList<>();
+        for (int threadCount : threadCounts) {
+            levels.add(measureLevel(threadCount, iterations));
+        }
+        ResponseTimeRecorder.setEnabled(false);
+
+        report(levels, minEfficiency);
+        System.exit(0);
+    }
+
+    /**
+     * Runs the suite the given number of times at a thread count and aggregates the measurements.
+     *
+     * @param threadCount The number of threads used for features and scenarios.
+     * @param iterations  The number of runs at this thread count.
+     * @return The averaged measurements of the thread count.
+     */
+    private static Level measureLevel(int threadCount, int iterations) {
+        com.sun.management.OperatingSystemMXBean osBean =
+                (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+
+        long wallTime = 0;
+        long cpuTime = 0;
+        long driverCpuTime = 0;
+        long peakHeap = 0;
+        int scenarios = 0;
+        int passedScenarios = 0;
+        int failedScenarios = 0;
+        ResponseTimeRecorder.drain();
+
+        for (int i = 0; i < iterations; i++) {
+            System.gc();
+            heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+            long cpuStart = osBean.getProcessCpuTime();
+            long driverCpuStart = driverCpuTimeMillis();
+            long start = System.nanoTime();
+
+            TestListenerAdapter results = runSuite(threadCount);
+
+            wallTime += (System.nanoTime() - start) / 1_000_000;
+            cpuTime += (osBean.getProcessCpuTime() - cpuStart) / 1_000_000;
+            driverCpuTime = driverCpuStart < 0 ? -1 : driverCpuTime + driverCpuTimeMillis() - driverCpuStart;
+            peakHeap = Math.max(peakHeap, heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum());
+            scenarios += results.getPassedTests().size() + results.getFailedTests().size() + results.getSkippedTests().size();
+            passedScenarios += results.getPassedTests().size();
+            failedScenarios += results.getFailedTests().size();
+        }
+
+        Level level = new Level(threadCount, wallTime / iterations, (double) scenarios / iterations,
+                (double) passedScenarios / iterations, (double) failedScenarios / iterations, cpuTime / iterations,
+                driverCpuTime < 0 ? -1 : driverCpuTime / iterations, peakHeap, percentile(ResponseTimeRecorder.drain(), 99));
+        log.info("Threads: " + threadCount + " | wall time: " + level.wallTimeMillis() + "ms | scenarios: " + level.scenarios()
+                + " | failed: " + level.failedScenarios() + " | p99 latency: " + level.p99LatencyMillis() + "ms");
+        return level;
+    }
+
+    /**
+     * Runs the TestRunner scenarios once using the given thread count.
+     * The DefaultListener warm-up is disabled, since it already ran once and would add a constant to every level's wall time.
+     *
+     * @param threadCount The number of threads used for features and scenarios.
+     * @return The listener holding the results of the executed scenarios.
+     */
+    private static TestListenerAdapter runSuite(int threadCount) {
+        System.setProperty("featureThreadCount", String.valueOf(threadCount));
+        System.setProperty("scenarioThreadCount", String.valueOf(threadCount));
+        System.setProperty("warmUpThreadCount", "0");
+
+        TestListenerAdapter results = new TestListenerAdapter();
+        TestNG testNG = new TestNG();
+        testNG.setUseDefaultListeners(false);
+        testNG.setVerbose(0);
+        testNG.setTestClasses(new Class[]{TestRunner.class});
+        testNG.addListener(results);
+        testNG.run();
+        return results;
+    }
+
+    /**
+     * Gets the CPU time used by the child processes of this JVM, i.e. the Playwright drivers.
+     * It adds the CPU time of the children already closed and reaped (cutime and cstime in /proc/self/stat)
+     * to the CPU time of the descendants still running.
+     *
+     * @return The children CPU time in milliseconds, or -1 if /proc is not available (non-Linux systems).
+     */
+    private static long driverCpuTimeMillis() {
+        try {
+            String stat = Files.readString(PROC_SELF_STAT);
+            // Fields after the process name (which may contain spaces) start at field 3, cutime and cstime are fields 16 and 17.
+            String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+            long reapedTicks = Long.parseLong(fields[13]) + Long.parseLong(fields[14]);
+            long runningMillis = ProcessHandle.current().descendants()
+                    .mapToLong(process -> process.info().totalCpuDuration().map(Duration::toMillis).orElse(0L))
+                    .sum();
+            return reapedTicks * 1000 / CLOCK_TICKS_PER_SECOND + runningMillis;
+        } catch (IOException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Reads the kernel clock ticks per second used by /proc (getconf CLK_TCK), which is 100 on almost every Linux system.
+     */
+    private static long readClockTicksPerSecond() {
+        try {
+            Process process = new ProcessBuilder("getconf", "CLK_TCK").start();
+            String output = new String(process.getInputStream().readAllBytes()).trim();
+            if (process.waitFor() == 0 && !output.isEmpty()) {
+                return Long.parseLong(output);
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Use the default value below.
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 100;
+    }
+
+    /**
+     * Calculates the given percentile of the response times using the nearest-rank method.
+     *
+     * @param responseTimes The recorded response times in milliseconds.
+     * @param percentile    The percentile to be calculated (e.g. 99).
+     * @return The response time at the percentile, or 0 if nothing was recorded.
+     */
+    private static long percentile(List<Long> responseTimes, int percentile) {
+        if (responseTimes.isEmpty()) {
+            return 0;
+        }
+        Collections.sort(responseTimes);
+        int rank = (int) Math.ceil(percentile / 100.0 * responseTimes.size());
+        return responseTimes.get(Math.max(rank - 1, 0));
+    }
+
+    /**
+     * Logs the speedup/efficiency curve, writes it to a CSV file and logs the recommended thread count.
+     * The recommended thread count is the one with the highest throughput whose efficiency is not below minEfficiency.
+     * Levels with more failed scenarios than the baseline level are flagged as failing and never recommended.
+     *
+     * @param levels        The measurements of every thread count, in execution order.
+     * @param minEfficiency The minimum parallel efficiency accepted for the recommendation.
+     * @throws IOException If the CSV report cannot be written.
+     */
+    private static void report(List<Level> levels, double minEfficiency) throws IOException {
+        Level baseline = levels.get(0);
+        Level recommended = baseline;
+        StringBuilder csv = new StringBuilder("threads,wallTimeMs,scenarios,passedScenarios,failedScenarios,throughputPerSecond,cpuTimeMs,driverCpuTimeMs,peakHeapMb,p99LatencyMs,speedup,efficiency,failing\n");
+        StringBuilder table = new StringBuilder("\nthreads | wall time | throughput | failed | cpu time | driver cpu time | peak heap | p99 latency | speedup | efficiency\n");
+
+        for (Level level : levels) {
+            double speedup = level.wallTimeMillis() == 0 ? 0 : (double) baseline.wallTimeMillis() / level.wallTimeMillis();
+            double efficiency = speedup / ((double) level.threadCount() / baseline.threadCount());
+            long peakHeapMb = level.peakHeapBytes() / (1024 * 1024);
+            boolean failing = level.failedScenarios() > baseline.failedScenarios();
+
+            if (!failing && efficiency >= minEfficiency && level.throughput() > recommended.throughput()) {
+                recommended = level;
+            }
+
+            csv.append(String.format(Locale.ROOT, "%d,%d,%.2f,%.2f,%.2f,%.2f,%d,%d,%d,%d,%.2f,%.2f,%b%n",
+                    level.threadCount(), level.wallTimeMillis(), level.scenarios(), level.passedScenarios(), level.failedScenarios(),
+                    level.throughput(), level.cpuTimeMillis(), level.driverCpuTimeMillis(), peakHeapMb, level.p99LatencyMillis(), speedup, efficiency, failing));
+            table.append(String.format(Locale.ROOT, "%7d | %7dms | %8.2f/s | %6.2f | %6dms | %13dms | %6dMB | %9dms | %6.2fx | %9.0f%%%s%n",
+                    level.threadCount(), level.wallTimeMillis(), level.throughput(), level.failedScenarios(), level.cpuTimeMillis(),
+                    level.driverCpuTimeMillis(), peakHeapMb, level.p99LatencyMillis(), speedup, efficiency * 100,
+                    failing ? " | FAILING: more failures than the baseline" : ""));
+        }
+
+        Files.createDirectories(REPORT_FILE.getParent());
+        Files.writeString(REPORT_FILE, csv.toString());
+
+        log.info(table.toString());
+        log.info("Recommended thread count: " + recommended.threadCount() + " (report saved to " + REPORT_FILE + ")");
+    }
+}
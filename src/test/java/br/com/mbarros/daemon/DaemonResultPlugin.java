@@ -0,0 +1,62 @@
+package br.com.mbarros.daemon;
+
+import br.com.mbarros.PlaywrightManager;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCaseFinished;
+
+import java.io.PrintWriter;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The DaemonResultPlugin class streams the result of each scenario executed by the TestDaemon to the client that submitted the run.
+ * It also disposes of the API request contexts after each scenario, which the DefaultListener does when running through TestNG.
+ * The status count is shared by the plugin instances of all the workers of a run, so the daemon can print a single summary.
+ */
+public class DaemonResultPlugin implements ConcurrentEventListener {
+
+    private static final Map<Status, Integer> statusCount = new EnumMap<>(Status.class);
+
+    static synchronized void resetStatusCount() {
+        statusCount.clear();
+    }
+
+    static synchronized String summary() {
+        int total = statusCount.values().stream().mapToInt(Integer::intValue).sum();
+        return total + " scenarios " + statusCount;
+    }
+
+    private static synchronized void count(Status status) {
+        statusCount.merge(status, 1, Integer::sum);
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onTestCaseFinished);
+    }
+
+    private void onTestCaseFinished(TestCaseFinished event) {
+        // The scenario events are published on the worker thread that ran the scenario and opened its API request contexts.
+        PlaywrightManager.closeAPIRequestContext();
+
+        Status status = event.getResult().getStatus();
+        count(status);
+
+        String line = status + " " + event.getTestCase().getUri() + ":" + event.getTestCase().getLocation().getLine()
+                + " " + event.getTestCase().getName() + " (" + event.getResult().getDuration().toMillis() + "ms)";
+        if (event.getResult().getError() != null) {
+            line += System.lineSeparator() + "  " + event.getResult().getError();
+        }
+        // A single println per scenario, so the lines of scenarios finishing at the same time on other workers are not interleaved.
+        print(line);
+    }
+
+    private void print(String line) {
+        PrintWriter output = TestDaemon.clientOutput;
+        if (output != null) {
+            output.println(line);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,284 @@
+package br.com.mbarros.daemon;
+
+import br.com.mbarros.PlaywrightManager;
+import br.com.mbarros.listeners.DefaultListener;
+import br.com.mbarros.listeners.SuiteWarmUp;
+import br.com.mbarros.selection.ScenarioImpactIndex;
+import io.cucumber.core.cli.Main;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * The TestDaemon class keeps a JVM running with its classes loaded and JIT-compiled, the Faker locales, the JSON schemas
+ * and one Playwright instance per worker thread warm, and runs the scenarios submitted by the TestDaemonClient over a local socket.
+ * Each run still builds a new Cucumber runtime, so the glue is scanned and the feature files are parsed again on every run.
+ * <p>
+ * The scenarios of a run are spread across a fixed pool of worker threads, like the parallel DataProvider of the TestRunner.
+ * The threads live as long as the daemon, so the thread-local Playwright instances created by the PlaywrightManager
+ * are reused between runs instead of being bootstrapped again.
+ * <p>
+ * Usage: {@code mvn test-compile exec:java -Dexec.mainClass=br.com.mbarros.daemon.TestDaemon -Dexec.classpathScope=test -DdaemonPort=7777 -DdaemonThreadCount=10}
+ * <p>
+ * Protocol (one command per line): {@code feature <path>} and {@code tags <expression>} describe the run
+ * (the defaults are the same as the TestRunner: every feature with {@code @AllScenarios-EN}),
+ * {@code run} starts it and {@code shutdown} stops the daemon. The results are streamed back line by line
+ * and the run ends with {@code exit <status>}.
+ */
+@Slf4j
+public class TestDaemon {
+
+    public static final int DEFAULT_PORT = 7777;
+    private static final String DEFAULT_FEATURES = "src/test/resources/features/";
+    private static final String DEFAULT_TAGS = "@AllScenarios-EN";
+    private static final Path RERUN_FILE = Path.of("target", "rerun", "failed_scenarios.txt");
+
+    /**
+     * Output of the client whose run is being executed, used by the DaemonResultPlugin to stream the results.
+     */
+    static volatile PrintWriter clientOutput;
+
+    private final int threadCount;
+    private final ExecutorService workers;
+
+    public TestDaemon(int threadCount) {
+        this.threadCount = threadCount;
+        this.workers = Executors.newFixedThreadPool(threadCount, new ThreadFactory() {
+            private int count = 0;
+
+            @Override
+            public synchronized Thread newThread(Runnable runnable) {
+                return new Thread(runnable, "test-daemon-worker-" + ++count);
+            }
+        });
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = Integer.parseInt(System.getProperty("daemonPort", String.valueOf(DEFAULT_PORT)));
+        // The TestNG DataProvider default thread count, which the TestRunner uses when scenarioThreadCount is not informed.
+        int threadCount = Integer.parseInt(System.getProperty("daemonThreadCount", "10"));
+        new TestDaemon(threadCount).serve(port);
+        System.exit(0);
+    }
+
+    /**
+     * Warms up the worker threads and serves the clients, one at a time, until a shutdown command is received.
+     *
+     * @param port The local port the daemon listens on.
+     */
+    public void serve(int port) throws Exception {
+        long startTime = System.currentTimeMillis();
+        SuiteWarmUp.run(Runtime.getRuntime().availableProcessors());
+        onEveryWorker(PlaywrightManager::getPlaywright);
+        workers.submit(this::loadGlue).get();
+        log.info("Test daemon warmed up " + threadCount + " workers in " + (System.currentTimeMillis() - startTime)
+                + "ms, listening on port " + port);
+
+        try (ServerSocket serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            boolean running = true;
+            while (running) {
+                try (Socket socket = serverSocket.accept()) {
+                    running = handleClient(socket);
+                } catch (IOException e) {
+                    log.error("Error communicating with the client", e);
+                }
+            }
+        } finally {
+            onEveryWorker(PlaywrightManager::closePlaywright);
+            workers.shutdown();
+            log.info("Test daemon stopped");
+        }
+    }
+
+    /**
+     * Reads the commands of a client and executes its run.
+     *
+     * @param socket The client socket.
+     * @return False if the client asked the daemon to shut down, true otherwise.
+     */
+    private boolean handleClient(Socket socket) throws IOException, InterruptedException {
+        BufferedReader input = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        PrintWriter output = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+
+        List<String> features = new ArrayList<>();
+        String tags = DEFAULT_TAGS;
+        String line;
+
+        while ((line = input.readLine()) != null) {
+            line = line.trim();
+            if (line.startsWith("feature ")) {
+                features.add(line.substring("feature ".length()).trim());
+            } else if (line.startsWith("tags ")) {
+                tags = line.substring("tags ".length()).trim();
+            } else if (line.equals("run")) {
+                output.println("exit " + run(features.isEmpty() ? List.of(DEFAULT_FEATURES) : features, tags, output));
+                return true;
+            } else if (line.equals("shutdown")) {
+                output.println("exit 0");
+                return false;
+            } else if (!line.isEmpty()) {
+                output.println("error Unknown command: " + line);
+                output.println("exit 2");
+                return true;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Runs the given features and tags with Cucumber, spreading the scenarios across the worker threads
+     * and streaming the results to the client. Each worker runs its share with its own Cucumber runtime,
+     * and the failed scenarios of all workers are merged into the rerun file used by the Rerun runner.
+     * The Allure results of the previous run are deleted first, as the DefaultListener does in a normal run.
+     *
+     * @return The highest Cucumber exit status of the workers, or 2 if the run could not be executed.
+     */
+    private byte run(List<String> features, String tags, PrintWriter output) throws InterruptedException {
+        DefaultListener.deleteAllureReportFiles();
+        DefaultListener.deleteAllureReportFilesFolderReports();
+
+        List<List<String>> shares;
+        try {
+            shares = splitScenarios(features);
+        } catch (IOException e) {
+            log.error("Error reading the feature files", e);
+            output.println("error " + e);
+            return 2;
+        }
+
+        log.info("Running " + features + " with tags " + tags + " on " + shares.size() + " workers");
+        long startTime = System.currentTimeMillis();
+        clientOutput = output;
+        DaemonResultPlugin.resetStatusCount();
+        try {
+            List<Future<Byte>> results = new ArrayList<>();
+            for (int i = 0; i < shares.size(); i++) {
+                List<String> arguments = new ArrayList<>(List.of(
+                        "--glue", "classpath:br/com/mbarros",
+                        "--plugin", DaemonResultPlugin.class.getName(),
+                        "--plugin", "rerun:" + workerRerunFile(i),
+                        "--plugin", "io.qameta.allure.cucumber7jvm.AllureCucumber7Jvm",
+                        "--publish-quiet",
+                        "--tags", tags));
+                arguments.addAll(shares.get(i));
+                results.add(workers.submit(() -> Main.run(arguments.toArray(new String[0]),
+                        Thread.currentThread().getContextClassLoader())));
+            }
+
+            byte exitStatus = 0;
+            for (Future<Byte> result : results) {
+                exitStatus = (byte) Math.max(exitStatus, result.get());
+            }
+            mergeRerunFiles(shares.size());
+            output.println(DaemonResultPlugin.summary() + " in " + (System.currentTimeMillis() - startTime) + "ms");
+            return exitStatus;
+        } catch (ExecutionException | IOException e) {
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            log.error("Error running the scenarios", cause);
+            output.println("error " + cause);
+            return 2;
+        } finally {
+            clientOutput = null;
+        }
+    }
+
+    /**
+     * Splits the scenarios of the given feature paths into one share per worker, in the "path:line" format.
+     * The tags are not evaluated here: each worker passes them to Cucumber, which filters the scenarios (and examples) exactly.
+     * Paths that do not match any indexed scenario (e.g. outside the features folder) are run as they are by a single worker.
+     */
+    private List<List<String>> splitScenarios(List<String> features) throws IOException {
+        Path root = Path.of("").toAbsolutePath();
+        List<ScenarioImpactIndex.Scenario> scenarios = ScenarioImpactIndex.build(root).getScenarios();
+
+        List<String> locations = new ArrayList<>();
+        List<String> unmatched = new ArrayList<>();
+        for (String feature : features) {
+            String path = feature.replace('\\', '/');
+            if (Path.of(path).isAbsolute()) {
+                path = root.relativize(Path.of(path)).toString().replace('\\', '/');
+            }
+
+            String prefix = path;
+            List<String> matched = scenarios.stream()
+                    .map(scenario -> scenario.featureFile() + ":" + scenario.line())
+                    .filter(location -> prefix.contains(":") ? location.equals(prefix) : location.startsWith(prefix))
+                    .toList();
+            if (matched.isEmpty()) {
+                unmatched.add(feature);
+            }
+            matched.stream().filter(location -> !locations.contains(location)).forEach(locations::add);
+        }
+
+        List<List<String>> shares = new ArrayList<>();
+        for (int i = 0; i < Math.min(threadCount, locations.size()); i++) {
+            shares.add(new ArrayList<>());
+        }
+        for (int i = 0; i < locations.size(); i++) {
+            shares.get(i % shares.size()).add(locations.get(i));
+        }
+        if (!unmatched.isEmpty()) {
+            shares.add(unmatched);
+        }
+        return shares;
+    }
+
+    private static Path workerRerunFile(int worker) {
+        return Path.of("target", "rerun", "daemon", "failed_scenarios_" + worker + ".txt");
+    }
+
+    private static void mergeRerunFiles(int workerCount) throws IOException {
+        StringBuilder failedScenarios = new StringBuilder();
+        for (int i = 0; i < workerCount; i++) {
+            Path rerunFile = workerRerunFile(i);
+            if (Files.exists(rerunFile)) {
+                String content = Files.readString(rerunFile).trim();
+                if (!content.isEmpty()) {
+                    failedScenarios.append(content).append("\n");
+                }
+            }
+        }
+        Files.createDirectories(RERUN_FILE.getParent());
+        Files.writeString(RERUN_FILE, failedScenarios.toString());
+    }
+
+    /**
+     * Runs the given action once on each worker thread. Every task waits for the others to start,
+     * so no worker can take two of them and each thread-local Playwright instance is handled exactly once.
+     */
+    private void onEveryWorker(Runnable action) throws InterruptedException, ExecutionException {
+        CountDownLatch started = new CountDownLatch(threadCount);
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            tasks.add(workers.submit(() -> {
+                started.countDown();
+                started.await();
+                action.run();
+                return null;
+            }));
+        }
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+    }
+
+    /**
+     * Loads the glue classes and the Cucumber classes with a dry run, so the first run does not pay for class loading.
+     */
+    private void loadGlue() {
+        Main.run(new String[]{"--glue", "classpath:br/com/mbarros", "--dry-run", "--publish-quiet",
+                "--plugin", "summary", DEFAULT_FEATURES}, Thread.currentThread().getContextClassLoader());
+    }
+}
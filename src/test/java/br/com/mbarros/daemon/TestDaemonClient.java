@@ -0,0 +1,56 @@
+package br.com.mbarros.daemon;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The TestDaemonClient class submits feature paths and tags to a running TestDaemon and prints the streamed results.
+ * It only depends on the JDK, so it starts without loading the test classpath.
+ * <p>
+ * Usage: {@code java -cp target/test-classes br.com.mbarros.daemon.TestDaemonClient [--port 7777] [--tags @addUser] [--shutdown] [features...]}
+ * <p>
+ * The process exits with the status of the run, so it can replace {@code mvn test} in scripts.
+ */
+public class TestDaemonClient {
+
+    public static void main(String[] args) throws IOException {
+        int port = TestDaemon.DEFAULT_PORT;
+        StringBuilder commands = new StringBuilder();
+        boolean shutdown = false;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                case "--tags" -> commands.append("tags ").append(args[++i]).append("\n");
+                case "--shutdown" -> shutdown = true;
+                default -> commands.append("feature ").append(args[i]).append("\n");
+            }
+        }
+        commands.append(shutdown ? "shutdown" : "run").append("\n");
+
+        int exitStatus = 2;
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            PrintWriter output = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            BufferedReader input = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+
+            output.print(commands);
+            output.flush();
+
+            String line;
+            while ((line = input.readLine()) != null) {
+                if (line.startsWith("exit ")) {
+                    exitStatus = Integer.parseInt(line.substring("exit ".length()).trim());
+                    break;
+                }
+                System.out.println(line);
+            }
+        }
+
+        System.exit(exitStatus);
+    }
+}
\ No newline at end of file
@@ -10,12 +10,14 @@ import static org.testng.Assert.fail;
 
 /**
  * This class represents a DefaultListener that implements both ISuiteListener and IInvokedMethodListener interfaces.
- * It handles tasks such as deleting Allure report files, reading Maven parameters, modifying test suite thread counts and managing Playwright instances.
+ * It handles tasks such as deleting Allure report files, reading Maven parameters, modifying test suite thread counts,
+ * warming up the suite and managing Playwright instances.
  */
 public class DefaultListener implements ISuiteListener, IInvokedMethodListener {
 
     private Integer featureThreadCount;
     private Integer scenarioThreadCount;
+    private Integer warmUpThreadCount = Runtime.getRuntime().availableProcessors();
 
     /**
      * Performs actions before the test suite starts.
@@ -35,6 +37,10 @@ public class DefaultListener implements ISuiteListener, IInvokedMethodListener {
         if (Objects.nonNull(scenarioThreadCount)) {
             suite.getXmlSuite().setDataProviderThreadCount(scenarioThreadCount);
         }
+
+        if (warmUpThreadCount > 0) {
+            SuiteWarmUp.run(warmUpThreadCount);
+        }
     }
 
     @Override
@@ -95,7 +101,8 @@ public class DefaultListener implements ISuiteListener, IInvokedMethodListener {
     }
 
     /**
-     * Reads Maven parameters and sets the featureThreadCount and scenarioThreadCount values.
+     * Reads Maven parameters and sets the featureThreadCount, scenarioThreadCount and warmUpThreadCount values.
+     * A warmUpThreadCount of 0 disables the warm-up.
      */
     private void readMavenParameters() {
         try {
@@ -105,6 +112,9 @@ public class DefaultListener implements ISuiteListener, IInvokedMethodListener {
             if (System.getProperty("scenarioThreadCount") != null) {
                 scenarioThreadCount = Integer.parseInt(System.getProperty("scenarioThreadCount"));
             }
+            if (System.getProperty("warmUpThreadCount") != null) {
+                warmUpThreadCount = Integer.parseInt(System.getProperty("warmUpThreadCount"));
+            }
         } catch (Exception e) {
             fail(e.toString());
         }
@@ -0,0 +1,99 @@
+package br.com.mbarros.listeners;
+
+import br.com.mbarros.ApiHelpers;
+import br.com.mbarros.payloads.User;
+import com.microsoft.playwright.Playwright;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+/**
+ * The SuiteWarmUp class runs the expensive first-time work of the suite concurrently, before any scenario is scheduled:
+ * Playwright driver bootstrap, Faker locale loading, payload encoding and JSON schema compilation.
+ * This way the first scenarios of each thread do not carry that cost in their timings.
+ * Connections are not warmed: each scenario creates its own Playwright instance, so none would be reused.
+ */
+@Slf4j
+public class SuiteWarmUp {
+
+    private static final String SCHEMA_FOLDER = "schemas/";
+
+    /**
+     * Runs the warm-up tasks using the given degree of parallelism and logs how long each one took.
+     * A failing task is logged and does not stop the suite, the scenarios then pay for that work as usual.
+     *
+     * @param parallelism The maximum number of warm-up tasks running at the same time.
+     */
+    public static void run(int parallelism) {
+        Map<String, Callable<Object>> tasks = new LinkedHashMap<>();
+        tasks.put("Playwright driver bootstrap", SuiteWarmUp::warmUpPlaywright);
+        tasks.put("Faker locale and payload encoding", () -> ApiHelpers.encodeBody(new User(), Map.of()));
+        listSchemas().forEach(schema -> tasks.put("JSON schema " + schema, () -> ApiHelpers.getJsonSchema(schema)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, tasks.size()));
+        long startTime = System.currentTimeMillis();
+        try {
+            Map<String, Future<Long>> durations = new LinkedHashMap<>();
+            tasks.forEach((name, task) -> durations.put(name, executor.submit(() -> timed(task))));
+
+            StringBuilder report = new StringBuilder("Warm-up tasks:\n");
+            for (Map.Entry<String, Future<Long>> duration : durations.entrySet()) {
+                try {
+                    report.append("  ").append(duration.getKey()).append(": ").append(duration.getValue().get()).append("ms\n");
+                } catch (ExecutionException e) {
+                    report.append("  ").append(duration.getKey()).append(": failed (").append(e.getCause()).append(")\n");
+                }
+            }
+            report.append("Warm-up finished in ").append(System.currentTimeMillis() - startTime)
+                    .append("ms with parallelism ").append(parallelism);
+            log.info(report.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long timed(Callable<Object> task) throws Exception {
+        long startTime = System.currentTimeMillis();
+        task.call();
+        return System.currentTimeMillis() - startTime;
+    }
+
+    /**
+     * Creates and closes a Playwright instance, which extracts and installs the driver on the first call.
+     */
+    private static Object warmUpPlaywright() {
+        Playwright.create().close();
+        return null;
+    }
+
+    /**
+     * Lists the JSON schema files of the schema folder on the classpath.
+     *
+     * @return The classpath paths of the JSON schemas, or an empty list if the folder cannot be listed.
+     */
+    private static List<String> listSchemas() {
+        URL schemaFolder = SuiteWarmUp.class.getClassLoader().getResource(SCHEMA_FOLDER);
+        if (schemaFolder == null || !schemaFolder.getProtocol().equals("file")) {
+            return List.of();
+        }
+
+        try (Stream<Path> schemas = Files.list(Path.of(schemaFolder.toURI()))) {
+            return schemas.map(schema -> SCHEMA_FOLDER + schema.getFileName())
+                    .filter(schema -> schema.endsWith(".json"))
+                    .sorted()
+                    .toList();
+        } catch (IOException | URISyntaxException e) {
+            log.warn("Could not list the JSON schemas to warm up", e);
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package br.com.mbarros.selection;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * The ImpactSelection class selects the scenarios affected by a git diff using the ScenarioImpactIndex
+ * and writes them to the file executed by the ImpactRunner, so only those scenarios (plus a safety set) are run.
+ * <p>
+ * Changes to files that cannot be mapped to scenarios (pom.xml, the request handling classes in src/main,
+ * runners, listeners, hooks) select every scenario. Changes outside src (README, docs, Dockerfile) select none.
+ * <p>
+ * Usage: {@code mvn test-compile exec:java -Dexec.mainClass=br.com.mbarros.selection.ImpactSelection -Dexec.classpathScope=test}
+ * and then {@code mvn test -Dtest=ImpactRunner}
+ * <ul>
+ *     <li>impactBase: Branch the changes are compared against, from the point where the current branch left it
+ *     (default "origin/main", or "main" when there is no origin/main).</li>
+ *     <li>impactChangedFiles: Comma separated changed files, used instead of the git diff when informed.</li>
+ *     <li>impactTags: Comma separated tags, a scenario must have one of them to be selected (default "@AllScenarios-EN").</li>
+ *     <li>impactSafetyTags: Comma separated tags of the scenarios that always run (default none).</li>
+ * </ul>
+ */
+@Slf4j
+public class ImpactSelection {
+
+    public static final Path SELECTED_SCENARIOS_FILE = Path.of("target", "impact", "selected_scenarios.txt");
+    public static final Path INDEX_FILE = Path.of("target", "impact", "scenario_index.txt");
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path root = Path.of("").toAbsolutePath();
+        String base = System.getProperty("impactBase", revisionExists("origin/main") ? "origin/main" : "main");
+        Set<String> tags = readList(System.getProperty("impactTags", "@AllScenarios-EN"));
+        Set<String> safetyTags = readList(System.getProperty("impactSafetyTags", ""));
+
+        Set<String> changedFiles = System.getProperty("impactChangedFiles") != null
+                ? readList(System.getProperty("impactChangedFiles"))
+                : gitChangedFiles(base);
+
+        ScenarioImpactIndex index = ScenarioImpactIndex.build(root);
+        writeIndex(index);
+
+        List<ScenarioImpactIndex.Scenario> selected = select(index, changedFiles, tags, safetyTags);
+        writeSelection(selected);
+
+        long total = index.getScenarios().stream().filter(scenario -> hasAnyTag(scenario, tags)).count();
+        log.info("Changed files: " + changedFiles);
+        log.info("Selected " + selected.size() + " of " + total + " scenarios, saved to " + SELECTED_SCENARIOS_FILE);
+    }
+
+    /**
+     * Selects the scenarios affected by the changed files, plus the scenarios of the safety set.
+     *
+     * @param index        The scenario impact index.
+     * @param changedFiles The repository relative paths of the changed files.
+     * @param tags         The tags a scenario must have one of to be selected.
+     * @param safetyTags   The tags of the scenarios that are always selected.
+     * @return The selected scenarios, in index order.
+     */
+    public static List<ScenarioImpactIndex.Scenario> select(ScenarioImpactIndex index, Set<String> changedFiles,
+                                                            Set<String> tags, Set<String> safetyTags) {
+        boolean runAll = changedFiles.stream().anyMatch(file -> requiresFullRun(index, file));
+
+        return index.getScenarios().stream()
+                .filter(scenario -> hasAnyTag(scenario, tags))
+                .filter(scenario -> runAll
+                        || hasAnyTag(scenario, safetyTags)
+                        || scenario.dependencies().stream().anyMatch(changedFiles::contains))
+                .toList();
+    }
+
+    /**
+     * Checks whether a changed file affects scenarios in a way the index cannot track.
+     * Feature files, schemas, payloads and step definition files are tracked, other sources and the build are not.
+     */
+    private static boolean requiresFullRun(ScenarioImpactIndex index, String file) {
+        if (file.startsWith(ScenarioImpactIndex.FEATURES_FOLDER)
+                || file.startsWith(ScenarioImpactIndex.SCHEMAS_FOLDER)
+                || file.startsWith(ScenarioImpactIndex.PAYLOADS_FOLDER)
+                || index.getGlueFiles().contains(file)) {
+            return false;
+        }
+        return file.equals("pom.xml") || file.startsWith("src/");
+    }
+
+    private static boolean hasAnyTag(ScenarioImpactIndex.Scenario scenario, Set<String> tags) {
+        return tags.stream().anyMatch(scenario.tags()::contains);
+    }
+
+    /**
+     * Lists the files changed since the current branch left the base branch (their merge base), including
+     * uncommitted changes and untracked files that are not ignored. Changes made on the base branch afterwards are not listed.
+     */
+    private static Set<String> gitChangedFiles(String base) throws IOException, InterruptedException {
+        String mergeBase = git("merge-base", base, "HEAD").iterator().next();
+        Set<String> changedFiles = git("diff", "--name-only", mergeBase);
+        changedFiles.addAll(git("ls-files", "--others", "--exclude-standard"));
+        return changedFiles;
+    }
+
+    private static boolean revisionExists(String revision) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder("git", "rev-parse", "--verify", "--quiet", revision + "^{commit}")
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        return process.waitFor() == 0;
+    }
+
+    /**
+     * Runs a git command and returns the lines it prints, e.g. file names.
+     */
+    private static Set<String> git(String... arguments) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of("git"));
+        command.addAll(List.of(arguments));
+        Process process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+
+        String output;
+        try (InputStream inputStream = process.getInputStream()) {
+            output = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("Could not run " + String.join(" ", command));
+        }
+        return readList(output.replace('\n', ','));
+    }
+
+    /**
+     * Writes the selected scenarios in the Cucumber rerun format ("path:line:line"), grouped by feature file.
+     */
+    private static void writeSelection(List<ScenarioImpactIndex.Scenario> selected) throws IOException {
+        Map<String, List<Integer>> linesByFeature = new LinkedHashMap<>();
+        selected.forEach(scenario -> linesByFeature.computeIfAbsent(scenario.featureFile(), key -> new ArrayList<>()).add(scenario.line()));
+
+        String content = linesByFeature.entrySet().stream()
+                .map(entry -> entry.getKey() + ":" + entry.getValue().stream().map(String::valueOf).collect(Collectors.joining(":")))
+                .collect(Collectors.joining("\n"));
+
+        Files.createDirectories(SELECTED_SCENARIOS_FILE.getParent());
+        Files.writeString(SELECTED_SCENARIOS_FILE, content);
+    }
+
+    /**
+     * Writes the index in a readable format, so the dependencies of each scenario can be reviewed.
+     */
+    private static void writeIndex(ScenarioImpactIndex index) throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (ScenarioImpactIndex.Scenario scenario : index.getScenarios()) {
+            content.append(scenario.featureFile()).append(":").append(scenario.line()).append(" ").append(scenario.name()).append("\n")
+                    .append("  tags: ").append(scenario.tags()).append("\n")
+                    .append("  endpoints: ").append(scenario.endpoints()).append("\n")
+                    .append("  dependencies: ").append(scenario.dependencies()).append("\n");
+        }
+
+        Files.createDirectories(INDEX_FILE.getParent());
+        Files.writeString(INDEX_FILE, content.toString());
+    }
+
+    private static Set<String> readList(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
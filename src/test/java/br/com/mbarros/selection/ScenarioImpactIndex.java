@@ -0,0 +1,303 @@
+package br.com.mbarros.selection;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * The ScenarioImpactIndex class maps each scenario of the feature files to what it depends on:
+ * the feature file itself, the step definition classes used by its steps, the schemas validated by
+ * "the contract should match", the payload classes used by the glue and the endpoints it calls.
+ * It is built by scanning the feature files and the glue sources, so no test has to be executed.
+ */
+public class ScenarioImpactIndex {
+
+    public static final String FEATURES_FOLDER = "src/test/resources/features/";
+    public static final String GLUE_FOLDER = "src/test/java/br/com/mbarros/";
+    public static final String SCHEMAS_FOLDER = "src/test/resources/schemas/";
+    public static final String PAYLOADS_FOLDER = "src/main/java/br/com/mbarros/payloads/";
+
+    private static final Pattern STEP_ANNOTATION = Pattern.compile("@(?:Given|When|Then|And|But|Dado|Quando|Entao|E|Mas)\\(\"((?:[^\"\\\\]|\\\\.)*)\"\\)");
+    private static final Pattern PAYLOAD_IMPORT = Pattern.compile("import br\\.com\\.mbarros\\.payloads\\.(\\w+);");
+    private static final Pattern SCHEMA_STEP = Pattern.compile("(?:the contract should match|o contrato deve estar de acordo com o) (\\S+)");
+    private static final Pattern ENDPOINT_STEP = Pattern.compile("(?:to the path|para o path) (\\S+)");
+    private static final List<String> STEP_KEYWORDS = List.of("Given ", "When ", "Then ", "And ", "But ", "* ",
+            "Dado ", "Quando ", "Entao ", "Então ", "E ", "Mas ");
+    private static final List<String> SCENARIO_KEYWORDS = List.of("Scenario:", "Scenario Outline:", "Scenario Template:", "Example:",
+            "Cenario:", "Cenário:", "Esquema do Cenario:", "Esquema do Cenário:");
+    private static final List<String> BACKGROUND_KEYWORDS = List.of("Background:", "Contexto:");
+    private static final List<String> EXAMPLES_KEYWORDS = List.of("Examples:", "Scenarios:", "Exemplos:", "Cenarios:", "Cenários:");
+    private static final List<String> FEATURE_KEYWORDS = List.of("Feature:", "Funcionalidade:");
+
+    /**
+     * Holds a scenario of a feature file and everything it depends on.
+     *
+     * @param featureFile  The repository relative path of the feature file.
+     * @param line         The line of the scenario in the feature file.
+     * @param name         The scenario name.
+     * @param tags         The scenario tags, including the tags inherited from the feature and its Examples.
+     * @param steps        The step texts of the scenario, including the Background steps.
+     * @param dependencies The repository relative paths of the files the scenario depends on.
+     * @param endpoints    The endpoints called by the scenario.
+     */
+    public record Scenario(String featureFile, int line, String name, Set<String> tags, List<String> steps,
+                           Set<String> dependencies, Set<String> endpoints) {
+    }
+
+    /**
+     * Holds a step definition expression and the glue file that declares it.
+     */
+    private record StepDefinition(Pattern pattern, String glueFile) {
+    }
+
+    private final Path root;
+    private final List<StepDefinition> stepDefinitions = new ArrayList<>();
+    private final Map<String, Set<String>> glueDependencies = new HashMap<>();
+    private final List<Scenario> scenarios = new ArrayList<>();
+
+    private ScenarioImpactIndex(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * Builds the index by scanning the glue sources and the feature files of the given repository.
+     *
+     * @param root The repository root folder.
+     * @return The built ScenarioImpactIndex.
+     * @throws IOException If the feature files or the glue sources cannot be read.
+     */
+    public static ScenarioImpactIndex build(Path root) throws IOException {
+        ScenarioImpactIndex index = new ScenarioImpactIndex(root);
+        index.scanGlue();
+        for (Path featureFile : index.listFiles(FEATURES_FOLDER, ".feature")) {
+            index.scanFeature(featureFile);
+        }
+        return index;
+    }
+
+    public List<Scenario> getScenarios() {
+        return Collections.unmodifiableList(scenarios);
+    }
+
+    /**
+     * Returns the glue files that declare step definitions, i.e. the files whose changes can be mapped to scenarios.
+     *
+     * @return The repository relative paths of the step definition files.
+     */
+    public Set<String> getGlueFiles() {
+        return Collections.unmodifiableSet(glueDependencies.keySet());
+    }
+
+    /**
+     * Finds the glue files declaring a step definition that matches the given step text.
+     *
+     * @param step The step text, without the Gherkin keyword.
+     * @return The repository relative paths of the matching glue files.
+     */
+    public List<String> findGlueFiles(String step) {
+        return stepDefinitions.stream()
+                .filter(definition -> definition.pattern().matcher(step).matches())
+                .map(StepDefinition::glueFile)
+                .toList();
+    }
+
+    /**
+     * Scans the glue sources for step definitions, the payload classes they import and the other glue classes they use.
+     * Glue dependencies are transitive: if A injects B and B injects C, A depends on C and its payloads.
+     */
+    private void scanGlue() throws IOException {
+        Map<String, String> glueSources = new LinkedHashMap<>();
+        for (Path glueFile : listFiles(GLUE_FOLDER, ".java")) {
+            String source = Files.readString(glueFile);
+            Matcher stepMatcher = STEP_ANNOTATION.matcher(source);
+            boolean hasSteps = false;
+            while (stepMatcher.find()) {
+                String expression = stepMatcher.group(1).replace("\\\"", "\"").replace("\\\\", "\\");
+                stepDefinitions.add(new StepDefinition(toPattern(expression), relativize(glueFile)));
+                hasSteps = true;
+            }
+            if (hasSteps) {
+                glueSources.put(relativize(glueFile), source);
+            }
+        }
+
+        Map<String, Set<String>> directDependencies = new HashMap<>();
+        glueSources.forEach((glueFile, source) -> {
+            Set<String> dependencies = new TreeSet<>();
+            dependencies.add(glueFile);
+
+            Matcher payloadMatcher = PAYLOAD_IMPORT.matcher(source);
+            while (payloadMatcher.find()) {
+                dependencies.add(PAYLOADS_FOLDER + payloadMatcher.group(1) + ".java");
+            }
+
+            // Glue classes injected into other glue classes (e.g. SharedSteps into UsersSteps) are dependencies too.
+            glueSources.keySet().forEach(otherGlueFile -> {
+                String className = Path.of(otherGlueFile).getFileName().toString().replace(".java", "");
+                if (Pattern.compile("\\b" + className + "\\b").matcher(source).find()) {
+                    dependencies.add(otherGlueFile);
+                }
+            });
+
+            directDependencies.put(glueFile, dependencies);
+        });
+
+        directDependencies.keySet().forEach(glueFile -> {
+            Set<String> dependencies = new TreeSet<>();
+            Deque<String> pending = new ArrayDeque<>(List.of(glueFile));
+            while (!pending.isEmpty()) {
+                String dependency = pending.pop();
+                if (dependencies.add(dependency) && directDependencies.containsKey(dependency)) {
+                    pending.addAll(directDependencies.get(dependency));
+                }
+            }
+            glueDependencies.put(glueFile, dependencies);
+        });
+    }
+
+    /**
+     * Scans a feature file and adds its scenarios to the index. Background steps are added to every scenario of the feature.
+     */
+    private void scanFeature(Path featureFile) throws IOException {
+        String relativePath = relativize(featureFile);
+        List<String> lines = Files.readAllLines(featureFile);
+
+        Set<String> featureTags = new TreeSet<>();
+        Set<String> pendingTags = new TreeSet<>();
+        List<String> backgroundSteps = new ArrayList<>();
+        List<String> currentSteps = null;
+        String scenarioName = null;
+        Set<String> scenarioTags = null;
+        int scenarioLine = 0;
+
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+
+            if (line.startsWith("@")) {
+                pendingTags.addAll(Arrays.asList(line.split("\\s+")));
+            } else if (startsWithAny(line, FEATURE_KEYWORDS)) {
+                featureTags.addAll(pendingTags);
+                pendingTags.clear();
+            } else if (startsWithAny(line, BACKGROUND_KEYWORDS)) {
+                currentSteps = backgroundSteps;
+            } else if (startsWithAny(line, SCENARIO_KEYWORDS)) {
+                if (scenarioName != null) {
+                    addScenario(relativePath, scenarioLine, scenarioName, scenarioTags, backgroundSteps, currentSteps);
+                }
+                scenarioName = line.substring(line.indexOf(':') + 1).trim();
+                scenarioLine = i + 1;
+                scenarioTags = new TreeSet<>(featureTags);
+                scenarioTags.addAll(pendingTags);
+                pendingTags.clear();
+                currentSteps = new ArrayList<>();
+            } else if (startsWithAny(line, EXAMPLES_KEYWORDS)) {
+                // Tags of an Examples block select the whole outline, which is the unit written to the selection file.
+                if (scenarioTags != null) {
+                    scenarioTags.addAll(pendingTags);
+                }
+                pendingTags.clear();
+            } else if (currentSteps != null) {
+                for (String keyword : STEP_KEYWORDS) {
+                    if (line.startsWith(keyword)) {
+                        currentSteps.add(line.substring(keyword.length()).trim());
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (scenarioName != null) {
+            addScenario(relativePath, scenarioLine, scenarioName, scenarioTags, backgroundSteps, currentSteps);
+        }
+    }
+
+    private void addScenario(String featureFile, int line, String name, Set<String> tags, List<String> backgroundSteps,
+                             List<String> steps) {
+        Set<String> dependencies = new TreeSet<>();
+        Set<String> endpoints = new TreeSet<>();
+        dependencies.add(featureFile);
+
+        List<String> allSteps = new ArrayList<>(backgroundSteps);
+        allSteps.addAll(steps);
+
+        for (String step : allSteps) {
+            List<String> glueFiles = findGlueFiles(step);
+
+            // A step without a matching definition cannot be mapped, so the scenario depends on the whole glue.
+            if (glueFiles.isEmpty()) {
+                glueFiles = new ArrayList<>(glueDependencies.keySet());
+            }
+            glueFiles.forEach(glueFile -> dependencies.addAll(glueDependencies.get(glueFile)));
+
+            Matcher schemaMatcher = SCHEMA_STEP.matcher(step);
+            if (schemaMatcher.find()) {
+                dependencies.add(SCHEMAS_FOLDER + schemaMatcher.group(1));
+            }
+
+            Matcher endpointMatcher = ENDPOINT_STEP.matcher(step);
+            if (endpointMatcher.find()) {
+                endpoints.add(endpointMatcher.group(1));
+            }
+        }
+
+        scenarios.add(new Scenario(featureFile, line, name, tags, allSteps, dependencies, endpoints));
+    }
+
+    /**
+     * Converts a Cucumber expression into a regular expression that matches the step text.
+     * Parameters also match Scenario Outline placeholders such as {@code <field>}.
+     *
+     * @param expression The Cucumber expression of the step definition.
+     * @return The compiled pattern of the expression.
+     */
+    static Pattern toPattern(String expression) {
+        StringBuilder regex = new StringBuilder();
+        int i = 0;
+        while (i < expression.length()) {
+            char c = expression.charAt(i);
+            if (c == '{' && expression.indexOf('}', i) > 0) {
+                int end = expression.indexOf('}', i);
+                String parameter = expression.substring(i + 1, end);
+                String parameterRegex = switch (parameter) {
+                    case "int" -> "-?\\d+";
+                    case "float", "double" -> "-?\\d*[.,]?\\d+";
+                    case "word" -> "\\S+";
+                    case "string" -> "\"[^\"]*\"|'[^']*'";
+                    default -> ".*";
+                };
+                regex.append("(?:<[^>]+>|").append(parameterRegex).append(")");
+                i = end + 1;
+            } else if (c == '(' && expression.indexOf(')', i) > 0) {
+                int end = expression.indexOf(')', i);
+                regex.append("(?:").append(Pattern.quote(expression.substring(i + 1, end))).append(")?");
+                i = end + 1;
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+                i++;
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private List<Path> listFiles(String folder, String extension) throws IOException {
+        Path path = root.resolve(folder);
+        if (!Files.isDirectory(path)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.walk(path)) {
+            return files.filter(file -> file.toString().endsWith(extension)).sorted().toList();
+        }
+    }
+
+    private String relativize(Path file) {
+        return root.relativize(file).toString().replace('\\', '/');
+    }
+
+    private static boolean startsWithAny(String line, List<String> keywords) {
+        return keywords.stream().anyMatch(line::startsWith);
+    }
+}
@@ -0,0 +1,74 @@
+package br.com.mbarros.selection;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Checks that the ScenarioImpactIndex maps scenarios to the right glue files, since a wrong mapping silently skips tests.
+ */
+public class ScenarioImpactIndexTest {
+
+    private static final String SHARED_STEPS = "src/test/java/br/com/mbarros/steps/SharedSteps.java";
+    private static final String USERS_STEPS = "src/test/java/br/com/mbarros/steps/UsersSteps.java";
+    private static final List<String> USERS_STEPS_TEXTS = List.of("that I have a user", "that I create a user", "want to update the registered user");
+
+    @Test
+    public void everyEnglishStepMapsToExactlyTheExpectedGlueFile() throws IOException {
+        ScenarioImpactIndex index = ScenarioImpactIndex.build(Path.of("").toAbsolutePath());
+
+        List<ScenarioImpactIndex.Scenario> scenarios = index.getScenarios().stream()
+                .filter(scenario -> scenario.featureFile().startsWith(ScenarioImpactIndex.FEATURES_FOLDER + "en/"))
+                .toList();
+        Assert.assertFalse(scenarios.isEmpty(), "No English scenario was indexed");
+
+        for (ScenarioImpactIndex.Scenario scenario : scenarios) {
+            Assert.assertFalse(scenario.steps().isEmpty(), "No step was indexed for " + scenario.name());
+
+            for (String step : scenario.steps()) {
+                String expectedGlueFile = USERS_STEPS_TEXTS.contains(step) ? USERS_STEPS : SHARED_STEPS;
+                Assert.assertEquals(index.findGlueFiles(step), List.of(expectedGlueFile), "Step: " + step);
+            }
+        }
+    }
+
+    @Test
+    public void glueDependenciesAreTransitiveAndExamplesTagsSelectTheOutline() throws IOException {
+        Path root = Files.createTempDirectory("impact-index");
+        Path glue = Files.createDirectories(root.resolve(ScenarioImpactIndex.GLUE_FOLDER + "steps"));
+        Path features = Files.createDirectories(root.resolve(ScenarioImpactIndex.FEATURES_FOLDER));
+
+        Files.writeString(glue.resolve("ASteps.java"), "class ASteps { BSteps b; @Given(\"a step {int} times\") void a(int times) {} }");
+        Files.writeString(glue.resolve("BSteps.java"), "class BSteps { CSteps c; @Given(\"b step\") void b() {} }");
+        Files.writeString(glue.resolve("CSteps.java"), "import br.com.mbarros.payloads.User;\n"
+                + "class CSteps { @Given(\"c step\") void c() {} }");
+        Files.writeString(features.resolve("sample.feature"), """
+                @feature
+                Feature: Sample
+
+                  Scenario Outline: Outline
+                    Given a step <times> times
+
+                    @safety
+                    Examples:
+                      | times |
+                      | 1     |
+                """);
+
+        ScenarioImpactIndex index = ScenarioImpactIndex.build(root);
+        ScenarioImpactIndex.Scenario scenario = index.getScenarios().get(0);
+
+        Assert.assertEquals(scenario.tags(), Set.of("@feature", "@safety"));
+        Assert.assertTrue(scenario.dependencies().contains(ScenarioImpactIndex.GLUE_FOLDER + "steps/CSteps.java"));
+        Assert.assertTrue(scenario.dependencies().contains(ScenarioImpactIndex.PAYLOADS_FOLDER + "User.java"));
+
+        List<ScenarioImpactIndex.Scenario> selected = ImpactSelection.select(index,
+                Set.of(ScenarioImpactIndex.GLUE_FOLDER + "steps/CSteps.java"), Set.of("@feature"), Set.of());
+        Assert.assertEquals(selected, List.of(scenario));
+    }
+}
@@ -49,7 +49,7 @@ public class SharedSteps {
     @E("preencho no payload o campo {word} com o valor {string}")
     @And("I fill in the payload the field {word} with the value {string}")
     public void fillPayloadWithAlternativeValues(String field, String value) {
-        sharedApiData.getBody().put(field, transformData(value));
+        sharedApiData.addBodyParam(field, transformData(value));
     }
 
     @Entao("deve retornar o status code {int}")
@@ -2,7 +2,6 @@ package br.com.mbarros.steps;
 
 import br.com.mbarros.SharedApiData;
 import br.com.mbarros.payloads.User;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.cucumber.java.en.And;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.pt.Dado;
@@ -10,13 +9,10 @@ import io.cucumber.java.pt.E;
 import io.restassured.http.Method;
 import org.apache.http.HttpStatus;
 
-import java.util.Map;
-
 public class UsersSteps {
 
     final SharedSteps sharedSteps;
     final SharedApiData sharedApiData;
-    final ObjectMapper objectMapper = new ObjectMapper();
 
     public UsersSteps(SharedApiData sharedApiData, SharedSteps sharedSteps) {
         this.sharedApiData = sharedApiData;
@@ -26,7 +22,7 @@ public class UsersSteps {
     @Dado("que tenho um usuario")
     @Given("that I have a user")
     public void setUserInRequestBody() {
-        sharedApiData.setBody(objectMapper.convertValue(new User(), Map.class));
+        sharedApiData.setBody(new User());
     }
 
     @Dado("que realizo o cadastro de um usuario")
@@ -40,6 +36,6 @@ public class UsersSteps {
     @E("desejo alterar o usuario cadastrado")
     @And("want to update the registered user")
     public void changeUserInRequestBody() {
-        sharedApiData.setBody(objectMapper.convertValue(new User(), Map.class));
+        sharedApiData.setBody(new User());
     }
 }